@@ -1,9 +1,51 @@
 package com.example.dungeon;
 
 import com.example.dungeon.core.Game;
+import com.example.dungeon.core.WorldGenerator;
+import com.example.dungeon.core.WorldImage;
+import com.example.dungeon.io.ConsoleOutput;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class Main {
+    private static final String USAGE = "Использование: Main [--world <файл образа> | --rooms <число комнат>]";
+
+    // --world <файл> — быстрый старт с готового образа (см. WorldImage), --rooms <n> — сгенерировать мир при старте
     public static void main(String[] args) {
-        new Game().run();
+        Path image = null;
+        int rooms = 0;
+        for (int i = 0; i < args.length; i++) {
+            String opt = args[i];
+            if (!opt.equals("--world") && !opt.equals("--rooms")) usage("Неизвестный аргумент: " + opt);
+            if (i + 1 >= args.length) usage("Нет значения для " + opt);
+            String value = args[++i];
+            if (image != null || rooms > 0) usage("--world и --rooms задаются только один раз и не вместе");
+            if (opt.equals("--world")) {
+                image = Paths.get(value);
+            } else {
+                try {
+                    rooms = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    rooms = 0;
+                }
+                if (rooms <= 0) usage("Число комнат должно быть положительным: " + value);
+            }
+        }
+
+        if (image != null) {
+            Path file = image;
+            new Game(new ConsoleOutput(), Paths.get(""), () -> System.exit(0), s -> WorldImage.read(s, file)).run();
+        } else {
+            Game game = new Game();
+            if (rooms > 0) WorldGenerator.generate(game.getState(), rooms, 1);
+            game.run();
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println(USAGE);
+        System.exit(2);
     }
 }
@@ -1,34 +1,70 @@
 package com.example.dungeon.core;
 
+import com.example.dungeon.io.ConsoleOutput;
+import com.example.dungeon.io.Output;
 import com.example.dungeon.model.*;
+import com.example.dungeon.query.WorldIndex;
+import com.example.dungeon.query.WorldQuery;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.example.dungeon.io.Messages.*;
+
 public class Game {
+    private static final int FIND_LIMIT = 20;
+
     private final GameState state = new GameState();
-    private final Map<String, Command> commands = new LinkedHashMap<>();
+    private Map<String, Command> commands; // заполняется при первой команде, см. commands()
+    private final Path dataDir;
+    private final Runnable onExit;
+    private WorldIndex worldIndex; // строится при первом find, см. getWorldIndex()
 
-    static {
-        WorldInfo.touch("Game");
+    public Game() {
+        this(new ConsoleOutput());
     }
 
-    public Game() {
-        registerCommands();
-        bootstrapWorld();
+    public Game(Output out) {
+        this(out, Paths.get(""), () -> System.exit(0));
+    }
+
+    // dataDir — каталог для save.txt и scores.csv, onExit — что делать при смерти героя или команде exit
+    public Game(Output out, Path dataDir, Runnable onExit) {
+        this(out, dataDir, onExit, Game::bootstrapWorld);
+    }
+
+    // world заполняет начальное состояние: стандартный мир или, например, WorldImage.read
+    public Game(Output out, Path dataDir, Runnable onExit, Consumer<GameState> world) {
+        this.dataDir = dataDir;
+        this.onExit = onExit;
+        state.setOutput(out);
+        world.accept(state);
+    }
+
+    private Map<String, Command> commands() {
+        if (commands == null) {
+            commands = new LinkedHashMap<>();
+            registerCommands();
+        }
+        return commands;
     }
 
     private void registerCommands() {
-        commands.put("help", (ctx, a) -> System.out.println("Команды: " + String.join(", ", commands.keySet())));
+        commands.put("help", (ctx, a) -> ctx.getOutput().println("Команды: " + String.join(", ", commands.keySet())));
         commands.put("gc-stats", (ctx, a) -> {
             Runtime rt = Runtime.getRuntime();
             long free = rt.freeMemory(), total = rt.totalMemory(), used = total - free;
-            System.out.println("Память: used=" + used + " free=" + free + " total=" + total);
+            ctx.getOutput().print("Память: used=").print(used).print(" free=").print(free).print(" total=").print(total).newline();
         });
-        commands.put("look", (ctx, a) -> System.out.println(ctx.getCurrent().describe()));
+        commands.put("look", (ctx, a) -> ctx.getOutput().println(ctx.getCurrent().describe()));
 
         // 1. move <north|south|east|west>
         commands.put("move", (ctx, a) -> {
@@ -38,8 +74,7 @@ public class Game {
             Room next = current.getNeighbors().get(dir);
             if (next == null) throw new InvalidCommandException("Нет выхода в направлении: " + dir);
             ctx.setCurrent(next);
-            System.out.println("Вы перешли в: " + next.getName());
-            System.out.println(next.describe());
+            ctx.getOutput().write(MOVED_TO).println(next.getName()).println(next.describe());
         });
 
         // 2. take <item name>
@@ -52,16 +87,16 @@ public class Game {
                     .findFirst();
             if (optItem.isEmpty()) throw new InvalidCommandException("Предмет не найден в комнате: " + itemName);
             Item item = optItem.get();
-            room.getItems().remove(item);
+            room.removeItem(item);
             ctx.getPlayer().getInventory().add(item);
-            System.out.println("Взято: " + item.getName());
+            ctx.getOutput().write(TAKEN).println(item.getName());
         });
 
         // 3. inventory
         commands.put("inventory", (ctx, a) -> {
             var inv = ctx.getPlayer().getInventory();
             if (inv.isEmpty()) {
-                System.out.println("Инвентарь пуст.");
+                ctx.getOutput().write(INVENTORY_EMPTY);
                 return;
             }
             // Группировка по типу предмета + сортировка по имени
@@ -69,9 +104,10 @@ public class Game {
                     .sorted(Comparator.comparing(Item::getName))
                     .collect(Collectors.groupingBy(i -> i.getClass().getSimpleName(), LinkedHashMap::new, Collectors.toList()));
 
+            Output out = ctx.getOutput();
             grouped.forEach((type, items) -> {
-                System.out.printf("- %s (%d): %s%n", type, items.size(),
-                        items.stream().map(Item::getName).collect(Collectors.joining(", ")));
+                out.print("- ").print(type).print(" (").print(items.size()).print("): ")
+                        .println(items.stream().map(Item::getName).collect(Collectors.joining(", ")));
             });
         });
 
@@ -94,8 +130,9 @@ public class Game {
             Monster monster = room.getMonster();
             if (monster == null) throw new InvalidCommandException("В комнате нет монстра для боя");
             Player player = ctx.getPlayer();
+            Output out = ctx.getOutput();
 
-            System.out.println("Начинается бой с " + monster.getName() + " (ур. " + monster.getLevel() + ")!");
+            out.write(FIGHT_START).print(monster.getName()).write(LEVEL_OPEN).print(monster.getLevel()).write(LEVEL_CLOSE_FIGHT);
 
             try {
                 // Простой пошаговый бой
@@ -103,32 +140,33 @@ public class Game {
                     // Игрок наносит урон
                     int playerAttack = player.getAttack();
                     monster.setHp(monster.getHp() - playerAttack);
-                    System.out.printf("Вы бьёте %s на %d HP. Монстр HP: %d%n",
-                            monster.getName(), playerAttack, Math.max(monster.getHp(), 0));
+                    out.write(PLAYER_HITS).print(monster.getName()).write(PLAYER_HITS_FOR).print(playerAttack)
+                            .write(PLAYER_HITS_HP).print(Math.max(monster.getHp(), 0)).newline();
                     if (monster.getHp() <= 0) break;
 
                     // Монстр наносит урон (уровень монстра)
                     int monsterAttack = monster.getLevel();
                     player.setHp(player.getHp() - monsterAttack);
-                    System.out.printf("Монстр отвечает на %d. Ваше HP: %d%n",
-                            monsterAttack, Math.max(player.getHp(), 0));
+                    out.write(MONSTER_HITS).print(monsterAttack)
+                            .write(MONSTER_HITS_HP).print(Math.max(player.getHp(), 0)).newline();
                 }
             } catch (Exception e) {
-                System.out.println("Ошибка в бою: " + e.getMessage());
+                out.println("Ошибка в бою: " + e.getMessage());
             }
 
             if (player.getHp() <= 0) {
-                System.out.println("Вы погибли. Игра окончена.");
-                System.exit(0);
+                out.write(PLAYER_DIED).flush();
+                onExit.run();
+                return;
             }
 
             if (monster.getHp() <= 0) {
-                System.out.println("Монстр повержен!");
+                out.write(MONSTER_DEFEATED);
                 room.setMonster(null);
                 // Бросаем лут (например, зелье)
                 Potion loot = new Potion("Зелье здоровья", 10);
-                room.getItems().add(loot);
-                System.out.println("Монстр оставил: " + loot.getName());
+                room.addItem(loot);
+                out.write(MONSTER_DROPPED).println(loot.getName());
             }
         });
 
@@ -147,7 +185,7 @@ public class Game {
             if (keyOpt.isEmpty()) throw new InvalidCommandException("У вас нет ключа для разблокировки!");
             room.getLockedExits().put(dir, false);
             player.getInventory().remove(keyOpt.get());
-            System.out.println("Дверь в направлении '" + dir + "' открыта! Ключ использован.");
+            ctx.getOutput().println("Дверь в направлении '" + dir + "' открыта! Ключ использован.");
         });
 
         // Изменена команда move: проверка на заблокированные выходы
@@ -162,42 +200,103 @@ public class Game {
                 throw new InvalidCommandException("Выход '" + dir + "' заблокирован! Используйте 'unlock " + dir + "' с ключом.");
             }
             ctx.setCurrent(next);
-            System.out.println("Вы перешли в: " + next.getName());
-            System.out.println(next.describe());
+            ctx.getOutput().write(MOVED_TO).println(next.getName()).println(next.describe());
         });
 
         // 7. alloc — демонстрация GC
         commands.put("alloc", (ctx, a) -> {
+            Output out = ctx.getOutput();
             Runtime rt = Runtime.getRuntime();
             long free = rt.freeMemory(), total = rt.totalMemory(), used = total - free;
-            System.out.println("Статистика памяти ДО alloc: used=" + used + " free=" + free + " total=" + total);
+            out.println("Статистика памяти ДО alloc: used=" + used + " free=" + free + " total=" + total);
 
-            System.out.println("Создаём 100 000 строк...");
+            out.println("Создаём 100 000 строк...");
             List<String> list = new ArrayList<>();
             for (int i = 0; i < 100000; i++) {
                 list.add("alloc_string_" + i);
             }
 
             free = rt.freeMemory(); total = rt.totalMemory(); used = total - free;
-            System.out.println("Статистика памяти ПОСЛЕ alloc (до GC): used=" + used + " free=" + free + " total=" + total);
+            out.println("Статистика памяти ПОСЛЕ alloc (до GC): used=" + used + " free=" + free + " total=" + total);
 
-            System.out.println("Вызываем GC...");
+            out.println("Вызываем GC...");
             System.gc();
 
             free = rt.freeMemory(); total = rt.totalMemory(); used = total - free;
-            System.out.println("Статистика памяти ПОСЛЕ GC: used=" + used + " free=" + free + " total=" + total);
+            out.println("Статистика памяти ПОСЛЕ GC: used=" + used + " free=" + free + " total=" + total);
+        });
+
+        // 8. find type <Key|Potion|Weapon> | item <название> | monster [мин..макс] — и необязательно within <ходов>
+        commands.put("find", (ctx, a) -> {
+            List<String> args = a;
+            WorldQuery query = getWorldIndex().query();
+            if (args.size() >= 2 && args.get(args.size() - 2).equalsIgnoreCase("within")) {
+                query.within(ctx.getCurrent(), parseCount(args.get(args.size() - 1)));
+                args = args.subList(0, args.size() - 2);
+            }
+            if (args.isEmpty()) throw new InvalidCommandException("Укажите критерий: find type <тип> | item <название> | monster [мин..макс] [within <ходов>]");
+            String what = args.get(0).toLowerCase(Locale.ROOT);
+            String rest = String.join(" ", args.subList(1, args.size()));
+            switch (what) {
+                case "type", "item" -> {
+                    if (rest.isEmpty()) throw new InvalidCommandException("Укажите " + (what.equals("type") ? "тип" : "название") + " предмета");
+                    if (what.equals("type")) query.itemType(rest);
+                    else query.item(rest);
+                }
+                case "monster" -> {
+                    int[] range = parseLevelRange(rest);
+                    query.monsterLevel(range[0], range[1]);
+                }
+                default -> throw new InvalidCommandException("Неизвестный критерий поиска: " + what);
+            }
+            List<WorldQuery.Match> found = query.run();
+            Output out = ctx.getOutput();
+            out.print("Найдено комнат: ").print(found.size()).newline();
+            for (int i = 0; i < found.size() && i < FIND_LIMIT; i++) {
+                WorldQuery.Match m = found.get(i);
+                out.print("- ").print(m.room().getName());
+                if (m.distance() >= 0) out.print(" (ходов: ").print(m.distance()).print(")");
+                Monster monster = m.room().getMonster();
+                if (what.equals("monster") && monster != null) {
+                    out.print(": ").print(monster.getName()).write(LEVEL_OPEN).print(monster.getLevel()).print(")");
+                }
+                out.newline();
+            }
+            if (found.size() > FIND_LIMIT) out.print("... и ещё ").print(found.size() - FIND_LIMIT).newline();
         });
 
-        commands.put("save", (ctx, a) -> SaveLoad.save(ctx));
-        commands.put("load", (ctx, a) -> SaveLoad.load(ctx));
-        commands.put("scores", (ctx, a) -> SaveLoad.printScores());
+        commands.put("save", (ctx, a) -> SaveLoad.save(ctx, dataDir));
+        commands.put("load", (ctx, a) -> SaveLoad.load(ctx, dataDir));
+        commands.put("scores", (ctx, a) -> SaveLoad.printScores(ctx.getOutput(), dataDir));
         commands.put("exit", (ctx, a) -> {
-            System.out.println("Пока!");
-            System.exit(0);
+            ctx.getOutput().write(BYE).flush();
+            onExit.run();
         });
     }
 
-    private void bootstrapWorld() {
+    private static int parseCount(String s) {
+        try {
+            int n = Integer.parseInt(s);
+            if (n < 0) throw new InvalidCommandException("Число не может быть отрицательным: " + s);
+            return n;
+        } catch (NumberFormatException e) {
+            throw new InvalidCommandException("Ожидалось число: " + s);
+        }
+    }
+
+    // "" — любой уровень, "3" — ровно 3, "4.." — от 4, "..2" — до 2, "2..5" — от 2 до 5
+    private static int[] parseLevelRange(String s) {
+        if (s.isEmpty()) return new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE};
+        int dots = s.indexOf("..");
+        if (dots < 0) {
+            int level = parseCount(s);
+            return new int[]{level, level};
+        }
+        String min = s.substring(0, dots).trim(), max = s.substring(dots + 2).trim();
+        return new int[]{min.isEmpty() ? Integer.MIN_VALUE : parseCount(min), max.isEmpty() ? Integer.MAX_VALUE : parseCount(max)};
+    }
+
+    static void bootstrapWorld(GameState state) {
         Player hero = new Player("Герой", 20, 5);
         state.setPlayer(hero);
 
@@ -215,10 +314,10 @@ public class Game {
         dungeon.getNeighbors().put("north",forest); //Выход на север к лесу заблокирован
         forest.getNeighbors().put("south",dungeon); //Обратная связь
 
-        forest.getItems().add(new Potion("Малое зелье", 5));
-        forest.getItems().add(new Key("Ржавый ключ"));
+        forest.addItem(new Potion("Малое зелье", 5));
+        forest.addItem(new Key("Ржавый ключ"));
         forest.setMonster(new Monster("Волк", 1, 8));
-        dungeon.getItems().add(new Weapon("Меч героя",3));
+        dungeon.addItem(new Weapon("Меч героя",3));
 
         state.getAllRooms().add(square);
         state.getAllRooms().add(forest);
@@ -229,36 +328,62 @@ public class Game {
     }
 
     public void run() {
-        System.out.println("DungeonMini (TEMPLATE). 'help' — команды.");
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in))) {
-            while (true) {
-                System.out.print("> ");
-                String line = in.readLine();
-                if (line == null) break;
-                line = line.trim();
-                if (line.isEmpty()) continue;
-                List<String> parts = Arrays.asList(line.split("\\s+"));
-                String cmd = parts.get(0).toLowerCase(Locale.ROOT);
-                List<String> args = parts.subList(1, parts.size());
-                Command c = commands.get(cmd);
-                try {
-                    if (c == null) throw new InvalidCommandException("Неизвестная команда: " + cmd);
-                    c.execute(state, args);
-                    state.addScore(1);
-                } catch (InvalidCommandException e) {
-                    System.out.println("Ошибка: " + e.getMessage());
-                } catch (ArithmeticException e) {
-                    // Пример ошибки выполнения
-                    System.out.println("Ошибка выполнения: " + e.getMessage());
-                } catch (Exception e) {
-                    System.out.println("Непредвиденная ошибка: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        Output out = state.getOutput();
+        try {
+            out.println("DungeonMini (TEMPLATE). 'help' — команды.").write(PROMPT).flush();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+                // Ответ и следующее приглашение уходят одной записью: два мелких write подряд
+                // в сокет упираются в Nagle и отложенный ACK
+                for (String line; (line = in.readLine()) != null; ) {
+                    execute(line);
+                    out.write(PROMPT).flush();
                 }
+            } catch (IOException e) {
+                out.println("Ошибка ввода/вывода: " + e.getMessage()).flush();
             }
-        } catch (IOException e) {
-            System.out.println("Ошибка ввода/вывода: " + e.getMessage());
+        } catch (UncheckedIOException e) {
+            // Получатель вывода закрыт (`| head`, клиент отключился) — сессия просто завершается
         }
     }
 
+    // Выполняет одну строку ввода; вывод остаётся в буфере до flush(). false — команда завершилась ошибкой
+    public boolean execute(String line) {
+        line = line.trim();
+        if (line.isEmpty()) return true;
+        Output out = state.getOutput();
+        List<String> parts = Arrays.asList(line.split("\\s+"));
+        String cmd = parts.get(0).toLowerCase(Locale.ROOT);
+        List<String> args = parts.subList(1, parts.size());
+        Command c = commands().get(cmd);
+        try {
+            if (c == null) throw new InvalidCommandException("Неизвестная команда: " + cmd);
+            c.execute(state, args);
+            state.addScore(1);
+            return true;
+        } catch (InvalidCommandException e) {
+            out.write(ERROR).println(e.getMessage());
+        } catch (ArithmeticException e) {
+            // Пример ошибки выполнения
+            out.println("Ошибка выполнения: " + e.getMessage());
+        } catch (Exception e) {
+            out.println("Непредвиденная ошибка: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        return false;
+    }
+
+    // Мир заменяется целиком (load, генератор) — тогда индекс строится заново по новому списку комнат
+    public WorldIndex getWorldIndex() {
+        if (worldIndex == null || !worldIndex.covers(state.getAllRooms())) {
+            if (worldIndex != null) worldIndex.detach();
+            worldIndex = new WorldIndex(state.getAllRooms());
+        }
+        return worldIndex;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
     /*
     Пример ошибки компиляции (раскомментируйте, чтобы увидеть):
     // int x = "string"; // Нельзя присвоить строку в int - ошибка компиляции
@@ -1,5 +1,6 @@
 package com.example.dungeon.core;
 
+import com.example.dungeon.io.Output;
 import com.example.dungeon.model.*;
 
 import java.io.*;
@@ -9,11 +10,12 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class SaveLoad {
-    private static final Path SAVE = Paths.get("save.txt");
-    private static final Path SCORES = Paths.get("scores.csv");
+    private static final String SAVE = "save.txt";
+    private static final String SCORES = "scores.csv";
 
-    public static void save(GameState s) {
-        try (BufferedWriter w = Files.newBufferedWriter(SAVE)) {
+    public static void save(GameState s, Path dataDir) {
+        Path save = dataDir.resolve(SAVE);
+        try (BufferedWriter w = Files.newBufferedWriter(save)) {
             Player p = s.getPlayer();
             w.write("player;" + p.getName() + ";" + p.getHp() + ";" + p.getAttack());
             w.newLine();
@@ -39,19 +41,20 @@ public class SaveLoad {
                 w.write("room;" + room.getName() + ";" + room.getDescription() + ";" + itemsStr + ";" + monsterStr + ";" + neighborsStr + ";" + lockedStr);
                 w.newLine();
             }
-            System.out.println("Сохранено в " + SAVE.toAbsolutePath());
-            writeScore(p.getName(), s.getScore());
+            s.getOutput().println("Сохранено в " + save.toAbsolutePath());
+            writeScore(dataDir.resolve(SCORES), p.getName(), s.getScore());
         } catch (IOException e) {
             throw new UncheckedIOException("Не удалось сохранить игру", e);
         }
     }
 
-    public static void load(GameState s) {
-        if (!Files.exists(SAVE)) {
-            System.out.println("Сохранение не найдено.");
+    public static void load(GameState s, Path dataDir) {
+        Path save = dataDir.resolve(SAVE);
+        if (!Files.exists(save)) {
+            s.getOutput().println("Сохранение не найдено.");
             return;
         }
-        try (BufferedReader r = Files.newBufferedReader(SAVE)) {
+        try (BufferedReader r = Files.newBufferedReader(save)) {
             Map<String, String> map = new HashMap<>();
             for (String line; (line = r.readLine()) != null; ) {
                 String[] parts = line.split(";", 2);
@@ -83,7 +86,7 @@ public class SaveLoad {
                     }
                 }
             }
-            System.out.println("Игра загружена (упрощённо).");
+            s.getOutput().println("Игра загружена (упрощённо).");
             // Новое: разбор комнат
             List<Room> rooms = new ArrayList<>();
             Map<String, Room> roomMap = new HashMap<>();
@@ -100,9 +103,9 @@ public class SaveLoad {
                             String[] t = tok.split(":", 2);
                             if (t.length >= 2) {
                                 switch (t[0]) {
-                                    case "Potion" -> room.getItems().add(new Potion(t[1], 5));
-                                    case "Key" -> room.getItems().add(new Key(t[1]));
-                                    case "Weapon" -> room.getItems().add(new Weapon(t[1], 3));
+                                    case "Potion" -> room.addItem(new Potion(t[1], 5));
+                                    case "Key" -> room.addItem(new Key(t[1]));
+                                    case "Weapon" -> room.addItem(new Weapon(t[1], 3));
                                 }
                             }
                         }
@@ -154,25 +157,26 @@ public class SaveLoad {
         }
     }
 
-    public static void printScores() {
-        if (!Files.exists(SCORES)) {
-            System.out.println("Пока нет результатов.");
+    public static void printScores(Output out, Path dataDir) {
+        Path scores = dataDir.resolve(SCORES);
+        if (!Files.exists(scores)) {
+            out.println("Пока нет результатов.");
             return;
         }
-        try (BufferedReader r = Files.newBufferedReader(SCORES)) {
-            System.out.println("Таблица лидеров (топ-10):");
+        try (BufferedReader r = Files.newBufferedReader(scores)) {
+            out.println("Таблица лидеров (топ-10):");
             r.lines().skip(1).map(l -> l.split(",")).map(a -> new Score(a[1], Integer.parseInt(a[2])))
                     .sorted(Comparator.comparingInt(Score::score).reversed()).limit(10)
-                    .forEach(s -> System.out.println(s.player() + " — " + s.score()));
+                    .forEach(s -> out.print(s.player()).print(" — ").print(s.score()).newline());
         } catch (IOException e) {
             System.err.println("Ошибка чтения результатов: " + e.getMessage());
         }
     }
 
-    private static void writeScore(String player, int score) {
+    private static void writeScore(Path scores, String player, int score) {
         try {
-            boolean header = !Files.exists(SCORES);
-            try (BufferedWriter w = Files.newBufferedWriter(SCORES, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            boolean header = !Files.exists(scores);
+            try (BufferedWriter w = Files.newBufferedWriter(scores, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
                 if (header) {
                     w.write("ts,player,score");
                     w.newLine();
@@ -0,0 +1,50 @@
+package com.example.dungeon.core;
+
+import com.example.dungeon.model.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Синтетический мир-сетка заданного размера: комнаты связаны по сторонам света,
+ * часть из них содержит предметы, монстров и запертые выходы.
+ */
+public final class WorldGenerator {
+
+    public static void generate(GameState s, int roomCount, long seed) {
+        if (roomCount <= 0) throw new IllegalArgumentException("Число комнат должно быть положительным: " + roomCount);
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int side = (int) Math.ceil(Math.sqrt(roomCount));
+        List<Room> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            Room room = new Room("Комната " + i, "Сгенерированная комната " + (i % side) + "x" + (i / side) + ".");
+            double roll = rnd.nextDouble();
+            if (roll < 0.30) room.addItem(new Potion("Зелье " + i, 5));
+            else if (roll < 0.40) room.addItem(new Key("Ключ " + i));
+            else if (roll < 0.45) room.addItem(new Weapon("Клинок " + i, 3));
+            if (rnd.nextDouble() < 0.15) {
+                int level = 1 + rnd.nextInt(5);
+                room.setMonster(new Monster("Монстр " + i, level, level * 4));
+            }
+            rooms.add(room);
+        }
+        for (int i = 0; i < roomCount; i++) {
+            Room room = rooms.get(i);
+            int x = i % side;
+            if (x + 1 < side && i + 1 < roomCount) link(room, "east", rooms.get(i + 1), "west", rnd);
+            if (i + side < roomCount) link(room, "south", rooms.get(i + side), "north", rnd);
+        }
+        s.setAllRooms(rooms);
+        s.setCurrent(rooms.get(0));
+    }
+
+    private static void link(Room a, String dir, Room b, String back, SplittableRandom rnd) {
+        a.getNeighbors().put(dir, b);
+        b.getNeighbors().put(back, a);
+        if (rnd.nextDouble() < 0.02) a.getLockedExits().put(dir, true);
+    }
+
+    private WorldGenerator() {
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.dungeon.core;
+
+import com.example.dungeon.model.*;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Двоичный образ начального мира: герой, комнаты с предметами и монстрами, связи
+ * по индексам комнат, направления — через общую таблицу. Файл читается в память
+ * целиком и разбирается одним проходом, поэтому старт с образа не зависит от
+ * стоимости генерации мира.
+ * <p>
+ * Образ собирается заранее (на этапе сборки):
+ * <pre>
+ * java com.example.dungeon.core.WorldImage world.img [комнат] [seed]
+ * </pre>
+ * без числа комнат — стандартный мир из четырёх комнат.
+ */
+public final class WorldImage {
+    private static final int MAGIC = 0x44554E47; // "DUNG"
+    private static final int VERSION = 1;
+
+    private static final byte POTION = 1;
+    private static final byte KEY = 2;
+    private static final byte WEAPON = 3;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Использование: WorldImage <файл> [комнат] [seed]");
+            System.exit(2);
+        }
+        // Герой и стандартный мир — как при обычном старте; генератор заменяет только комнаты
+        GameState s = new GameState();
+        Game.bootstrapWorld(s);
+        if (args.length >= 2) {
+            long seed = args.length >= 3 ? Long.parseLong(args[2]) : 1;
+            WorldGenerator.generate(s, Integer.parseInt(args[1]), seed);
+        }
+        Path file = Paths.get(args[0]);
+        write(s, file);
+        System.out.println("Образ мира: " + s.getAllRooms().size() + " комнат, " + Files.size(file) + " байт -> " + file.toAbsolutePath());
+    }
+
+    public static void write(GameState s, Path file) throws IOException {
+        List<Room> rooms = s.getAllRooms();
+        Map<Room, Integer> index = new IdentityHashMap<>(rooms.size() * 2);
+        Map<String, Integer> dirs = new LinkedHashMap<>();
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            index.put(room, i);
+            room.getNeighbors().keySet().forEach(d -> dirs.putIfAbsent(d, dirs.size()));
+            room.getLockedExits().keySet().forEach(d -> dirs.putIfAbsent(d, dirs.size()));
+        }
+        if (dirs.size() > 255) throw new IllegalStateException("Слишком много различных направлений: " + dirs.size());
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeByte(dirs.size());
+            for (String d : dirs.keySet()) writeString(out, d);
+
+            Player p = s.getPlayer();
+            writeString(out, p.getName());
+            out.writeInt(p.getHp());
+            out.writeInt(p.getAttack());
+            writeItems(out, p.getInventory());
+
+            out.writeInt(rooms.size());
+            for (Room room : rooms) {
+                writeString(out, room.getName());
+                writeString(out, room.getDescription());
+                writeItems(out, room.getItems());
+                Monster m = room.getMonster();
+                out.writeBoolean(m != null);
+                if (m != null) {
+                    writeString(out, m.getName());
+                    out.writeInt(m.getLevel());
+                    out.writeInt(m.getHp());
+                }
+            }
+            for (Room room : rooms) {
+                out.writeByte(room.getNeighbors().size());
+                for (Map.Entry<String, Room> e : room.getNeighbors().entrySet()) {
+                    Integer target = index.get(e.getValue());
+                    if (target == null) throw new IllegalStateException("Сосед не входит в список комнат: " + e.getValue().getName());
+                    out.writeByte(dirs.get(e.getKey()));
+                    out.writeInt(target);
+                }
+                out.writeByte(room.getLockedExits().size());
+                for (Map.Entry<String, Boolean> e : room.getLockedExits().entrySet()) {
+                    out.writeByte(dirs.get(e.getKey()));
+                    out.writeBoolean(e.getValue());
+                }
+            }
+            out.writeInt(index.getOrDefault(s.getCurrent(), 0));
+        }
+    }
+
+    /** Заполняет состояние из образа; подходит как источник мира для {@link Game}. */
+    public static void read(GameState s, Path file) {
+        try {
+            // Файл читается целиком: разбор идёт по массиву без потоковых вызовов на каждое поле
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (in.getInt() != MAGIC) throw new IOException("Не образ мира: " + file);
+            int version = in.getInt();
+            if (version != VERSION) throw new IOException("Неподдерживаемая версия образа: " + version);
+            String[] dirs = new String[in.get() & 0xFF];
+            for (int i = 0; i < dirs.length; i++) dirs[i] = readString(in);
+
+            Player p = new Player(readString(in), in.getInt(), in.getInt());
+            readItems(in, p.getInventory()::add);
+
+            int count = in.getInt();
+            List<Room> rooms = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Room room = new Room(readString(in), readString(in));
+                readItems(in, room::addItem);
+                if (in.get() != 0) room.setMonster(new Monster(readString(in), in.getInt(), in.getInt()));
+                rooms.add(room);
+            }
+            for (Room room : rooms) {
+                for (int n = in.get() & 0xFF; n > 0; n--) {
+                    String dir = dirs[in.get() & 0xFF];
+                    room.getNeighbors().put(dir, rooms.get(in.getInt()));
+                }
+                for (int n = in.get() & 0xFF; n > 0; n--) {
+                    String dir = dirs[in.get() & 0xFF];
+                    room.getLockedExits().put(dir, in.get() != 0);
+                }
+            }
+            int current = in.getInt();
+            s.setPlayer(p);
+            s.setAllRooms(rooms);
+            s.setCurrent(rooms.isEmpty() ? null : rooms.get(current));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать образ мира", e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new UncheckedIOException(new IOException("Образ мира повреждён: " + file, e));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] b = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int len = in.getInt();
+        int pos = in.position();
+        String str = new String(in.array(), pos, len, StandardCharsets.UTF_8);
+        in.position(pos + len);
+        return str;
+    }
+
+    private static void writeItems(DataOutputStream out, List<Item> items) throws IOException {
+        out.writeInt(items.size());
+        for (Item item : items) {
+            if (item instanceof Potion potion) {
+                out.writeByte(POTION);
+                writeString(out, item.getName());
+                out.writeInt(potion.getHeal());
+            } else if (item instanceof Weapon weapon) {
+                out.writeByte(WEAPON);
+                writeString(out, item.getName());
+                out.writeInt(weapon.getBonus());
+            } else if (item instanceof Key) {
+                out.writeByte(KEY);
+                writeString(out, item.getName());
+                out.writeInt(0);
+            } else {
+                throw new IllegalArgumentException("Неизвестный тип предмета: " + item.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private static void readItems(ByteBuffer in, Consumer<Item> items) throws IOException {
+        for (int n = in.getInt(); n > 0; n--) {
+            byte type = in.get();
+            String name = readString(in);
+            int value = in.getInt();
+            switch (type) {
+                case POTION -> items.accept(new Potion(name, value));
+                case KEY -> items.accept(new Key(name));
+                case WEAPON -> items.accept(new Weapon(name, value));
+                default -> throw new IOException("Неизвестный тип предмета в образе: " + type);
+            }
+        }
+    }
+
+    private WorldImage() {
+    }
+}
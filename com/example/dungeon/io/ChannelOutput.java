@@ -0,0 +1,28 @@
+package com.example.dungeon.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Пишет в канал (например, блокирующий SocketChannel). Текст кодируется сразу в прямой
+ * буфер, и канал отправляет его без промежуточной копии, которую JDK делает для
+ * буферов в куче. Канал закрывает его владелец.
+ */
+public class ChannelOutput extends Output {
+    private final WritableByteChannel channel;
+
+    public ChannelOutput(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    protected ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    @Override
+    protected void writeTo(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) channel.write(data);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dungeon.io;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** Пишет прямо в дескриптор stdout, минуя синхронизированный PrintStream. */
+public class ConsoleOutput extends Output {
+    private static final FileOutputStream STDOUT = new FileOutputStream(FileDescriptor.out);
+
+    @Override
+    protected void writeTo(ByteBuffer data) throws IOException {
+        STDOUT.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+    }
+}
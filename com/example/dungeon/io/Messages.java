@@ -0,0 +1,30 @@
+package com.example.dungeon.io;
+
+import static com.example.dungeon.io.Output.utf8;
+
+/** Неизменяемые фрагменты сообщений, заранее закодированные в UTF-8. */
+public final class Messages {
+    public static final byte[] PROMPT = utf8("> ");
+    public static final byte[] ERROR = utf8("Ошибка: ");
+
+    public static final byte[] MOVED_TO = utf8("Вы перешли в: ");
+    public static final byte[] TAKEN = utf8("Взято: ");
+    public static final byte[] INVENTORY_EMPTY = utf8("Инвентарь пуст.\n");
+
+    public static final byte[] FIGHT_START = utf8("Начинается бой с ");
+    public static final byte[] LEVEL_OPEN = utf8(" (ур. ");
+    public static final byte[] LEVEL_CLOSE_FIGHT = utf8(")!\n");
+    public static final byte[] PLAYER_HITS = utf8("Вы бьёте ");
+    public static final byte[] PLAYER_HITS_FOR = utf8(" на ");
+    public static final byte[] PLAYER_HITS_HP = utf8(" HP. Монстр HP: ");
+    public static final byte[] MONSTER_HITS = utf8("Монстр отвечает на ");
+    public static final byte[] MONSTER_HITS_HP = utf8(". Ваше HP: ");
+    public static final byte[] PLAYER_DIED = utf8("Вы погибли. Игра окончена.\n");
+    public static final byte[] MONSTER_DEFEATED = utf8("Монстр повержен!\n");
+    public static final byte[] MONSTER_DROPPED = utf8("Монстр оставил: ");
+
+    public static final byte[] BYE = utf8("Пока!\n");
+
+    private Messages() {
+    }
+}
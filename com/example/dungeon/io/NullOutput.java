@@ -0,0 +1,10 @@
+package com.example.dungeon.io;
+
+import java.nio.ByteBuffer;
+
+/** Отбрасывает весь вывод — для бенчмарков и ботов. */
+public class NullOutput extends Output {
+    @Override
+    protected void writeTo(ByteBuffer data) {
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.dungeon.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Вывод одной игровой сессии. Текст копится в переиспользуемом буфере (сразу в UTF-8)
+ * и уходит в бэкенд одним вызовом на {@link #flush()}. Какой буфер взять — в куче
+ * или прямой — решает бэкенд через {@link #allocate(int)}.
+ */
+public abstract class Output {
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+    private static final int MAX_RETAINED = 256 * 1024;
+
+    // Запись идёт по абсолютным индексам: position всегда 0, заполнено [0, len)
+    private ByteBuffer buf;
+    private int len;
+
+    protected Output() {
+        buf = allocate(INITIAL_CAPACITY);
+    }
+
+    public static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public Output write(byte[] bytes) {
+        ensure(bytes.length);
+        buf.put(len, bytes);
+        len += bytes.length;
+        return this;
+    }
+
+    public Output print(String s) {
+        int n = s.length();
+        ensure(n * 3);
+        ByteBuffer b = buf;
+        int p = len;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                b.put(p++, (byte) c);
+            } else if (c < 0x800) {
+                b.put(p++, (byte) (0xC0 | c >> 6));
+                b.put(p++, (byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                b.put(p++, (byte) (0xF0 | cp >> 18));
+                b.put(p++, (byte) (0x80 | cp >> 12 & 0x3F));
+                b.put(p++, (byte) (0x80 | cp >> 6 & 0x3F));
+                b.put(p++, (byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                b.put(p++, (byte) '?');
+            } else {
+                b.put(p++, (byte) (0xE0 | c >> 12));
+                b.put(p++, (byte) (0x80 | c >> 6 & 0x3F));
+                b.put(p++, (byte) (0x80 | c & 0x3F));
+            }
+        }
+        len = p;
+        return this;
+    }
+
+    public Output print(long v) {
+        ensure(20);
+        if (v == Long.MIN_VALUE) return print(Long.toString(v));
+        if (v < 0) {
+            buf.put(len++, (byte) '-');
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        int p = len + digits;
+        len = p;
+        do {
+            buf.put(--p, (byte) ('0' + v % 10));
+            v /= 10;
+        } while (v != 0);
+        return this;
+    }
+
+    public Output println(String s) {
+        return print(s).newline();
+    }
+
+    public Output newline() {
+        ensure(1);
+        buf.put(len++, (byte) '\n');
+        return this;
+    }
+
+    /** Отправляет накопленное в бэкенд и очищает буфер. */
+    public void flush() {
+        if (len == 0) return;
+        try {
+            buf.limit(len).position(0);
+            writeTo(buf);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка вывода", e);
+        } finally {
+            buf.clear();
+            len = 0;
+            if (buf.capacity() > MAX_RETAINED) buf = allocate(INITIAL_CAPACITY);
+        }
+    }
+
+    /** Буфер сессии; вызывается из конструктора, поэтому не должен зависеть от полей наследника. */
+    protected ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocate(capacity);
+    }
+
+    /** Записывает data от position до limit. */
+    protected abstract void writeTo(ByteBuffer data) throws IOException;
+
+    private void ensure(int extra) {
+        int need = len + extra;
+        if (need <= buf.capacity()) return;
+        ByteBuffer grown = allocate(Math.max(need, buf.capacity() * 2));
+        grown.put(0, buf, 0, len);
+        buf = grown;
+    }
+}
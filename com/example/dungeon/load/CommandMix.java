@@ -0,0 +1,93 @@
+package com.example.dungeon.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Марковская модель смеси команд. Формат описания — по строке на состояние:
+ * <pre>
+ * look: move=45 take=25 fight=10
+ * </pre>
+ * Веса нормируются построчно; '#' начинает комментарий.
+ */
+public final class CommandMix {
+    public static final List<String> KINDS = List.of("move", "look", "take", "use", "fight", "inventory", "save");
+
+    private static final String DEFAULT = """
+            move:      move=35 look=35 take=10 use=3  fight=10 inventory=5  save=2
+            look:      move=45 look=5  take=25 use=5  fight=10 inventory=8  save=2
+            take:      move=30 look=30 take=10 use=10 fight=5  inventory=13 save=2
+            use:       move=35 look=30 take=10 use=5  fight=10 inventory=8  save=2
+            fight:     move=30 look=40 take=20 use=5           inventory=3  save=2
+            inventory: move=30 look=20 take=5  use=35 fight=5               save=5
+            save:      move=50 look=40 take=5                  inventory=5
+            """;
+
+    // cumulative[from][to] — накопленные вероятности перехода
+    private final double[][] cumulative;
+
+    private CommandMix(double[][] cumulative) {
+        this.cumulative = cumulative;
+    }
+
+    public static CommandMix defaults() {
+        return parse(DEFAULT);
+    }
+
+    public static CommandMix load(Path file) throws IOException {
+        return parse(Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    public static CommandMix parse(String text) {
+        int n = KINDS.size();
+        double[][] weights = new double[n][];
+        for (String raw : text.split("\n")) {
+            String line = raw.replaceFirst("#.*", "").trim();
+            if (line.isEmpty()) continue;
+            String[] head = line.split(":", 2);
+            if (head.length < 2) throw new IllegalArgumentException("Ожидалось '<команда>: ...': " + line);
+            int from = kindIndex(head[0].trim());
+            double[] row = new double[n];
+            for (String tok : head[1].trim().split("\\s+")) {
+                if (tok.isEmpty()) continue;
+                String[] kv = tok.split("=", 2);
+                if (kv.length < 2) throw new IllegalArgumentException("Ожидалось '<команда>=<вес>': " + tok);
+                double w = Double.parseDouble(kv[1]);
+                if (w < 0) throw new IllegalArgumentException("Отрицательный вес: " + tok);
+                row[kindIndex(kv[0])] = w;
+            }
+            weights[from] = row;
+        }
+        double[][] cumulative = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            if (weights[i] == null) throw new IllegalArgumentException("Нет переходов для команды: " + KINDS.get(i));
+            double sum = Arrays.stream(weights[i]).sum();
+            if (sum <= 0) throw new IllegalArgumentException("Нулевая сумма весов для команды: " + KINDS.get(i));
+            double acc = 0;
+            for (int j = 0; j < n; j++) {
+                acc += weights[i][j] / sum;
+                cumulative[i][j] = acc;
+            }
+            cumulative[i][n - 1] = 1.0;
+        }
+        return new CommandMix(cumulative);
+    }
+
+    /** Следующая команда по текущей и случайному числу из [0, 1). */
+    public int next(int from, double u) {
+        double[] row = cumulative[from];
+        for (int j = 0; j < row.length; j++) {
+            if (u < row[j]) return j;
+        }
+        return row.length - 1;
+    }
+
+    private static int kindIndex(String kind) {
+        int i = KINDS.indexOf(kind.toLowerCase(Locale.ROOT));
+        if (i < 0) throw new IllegalArgumentException("Неизвестная команда в модели: " + kind);
+        return i;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.dungeon.load;
+
+/**
+ * Лог-линейная гистограмма задержек в наносекундах в духе HdrHistogram:
+ * каждая степень двойки делится на 2^(SUB_BITS-1) корзин, так что
+ * относительная погрешность перцентилей не превышает 2^-(SUB_BITS-1) (~0.8%).
+ * Не потокобезопасна: у каждой сессии свои экземпляры, сводятся через {@link #add}.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 8;
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private static final int MAX_BITS = 42; // ~73 минуты, больше — в последнюю корзину
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+    private final long[] counts = new long[(MAX_BITS - SUB_BITS + 2) * HALF];
+    private long total;
+    private long max;
+
+    void record(long nanos) {
+        long v = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts[index(v)]++;
+        total++;
+        if (v > max) max = v;
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /** Верхняя граница корзины, в которую попадает перцентиль {@code p} (0..100). */
+    long percentile(double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestEquivalent(i), max);
+        }
+        return max;
+    }
+
+    private static int index(long v) {
+        int mag = 63 - Long.numberOfLeadingZeros(v);
+        if (mag < SUB_BITS) return (int) v;
+        int shift = mag - (SUB_BITS - 1);
+        return (shift << (SUB_BITS - 1)) + (int) (v >>> shift);
+    }
+
+    private static long highestEquivalent(int idx) {
+        if (idx < 2 * HALF) return idx;
+        int shift = (idx >> (SUB_BITS - 1)) - 1;
+        long mantissa = idx - ((long) shift << (SUB_BITS - 1));
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
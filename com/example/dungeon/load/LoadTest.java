@@ -0,0 +1,279 @@
+package com.example.dungeon.load;
+
+import com.example.dungeon.core.Game;
+import com.example.dungeon.core.WorldGenerator;
+import com.example.dungeon.io.NullOutput;
+import com.example.dungeon.model.GameState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный прогон: N сессий в одном процессе, каждая со своим {@link Game},
+ * получают команды по открытой модели — моменты прихода расписаны заранее
+ * (пуассоновский или равномерный поток), а задержка считается от запланированного
+ * момента, а не от фактического старта. Так отставание движка попадает в
+ * перцентили, а не прячется за паузой генератора (coordinated omission).
+ * <p>
+ * Пример:
+ * <pre>
+ * java com.example.dungeon.load.LoadTest --sessions 8 --rate 4000 --duration 30 --warmup 5 --rooms 10000 --slo-p99-ms 2
+ * </pre>
+ * {@code --rooms 0} — стандартный мир из четырёх комнат (герой быстро застревает
+ * за запертой дверью), по умолчанию — сгенерированный мир на 1000 комнат.
+ * {@code --max-overrun} (по умолчанию — длина окна) ограничивает разбор отставания после
+ * конца окна: к этому сроку сессии останавливаются, а невыполненные команды считаются
+ * просроченными. Код выхода 1 — нарушен SLO: p99 выше порога или есть просроченные команды.
+ */
+public final class LoadTest {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    record Settings(int sessions, double rate, double durationSec, double warmupSec, int rooms, long seed,
+                    CommandMix mix, double typoRate, boolean poisson, double sloP99Ms, double maxOverrunSec) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings s = parse(args);
+        Report r = run(s);
+        r.print(s);
+        if (s.sloP99Ms() > 0 && r.overall().percentile(99) > s.sloP99Ms() * 1e6) {
+            System.out.printf(Locale.ROOT, "SLO нарушен: p99 %.3f мс > %.3f мс%n", r.overall().percentile(99) / 1e6, s.sloP99Ms());
+            System.exit(1);
+        }
+        if (s.sloP99Ms() > 0 && r.timedOut() > 0) {
+            System.out.printf(Locale.ROOT, "SLO нарушен: %d команд не выполнено до предела перебега%n", r.timedOut());
+            System.exit(1);
+        }
+    }
+
+    static Report run(Settings s) throws InterruptedException {
+        List<Session> sessions = new ArrayList<>();
+        for (int i = 0; i < s.sessions(); i++) sessions.add(new Session(s, i));
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + (long) (s.warmupSec() * 1e9);
+        long end = measureFrom + (long) (s.durationSec() * 1e9);
+        long deadline = end + (long) (s.maxOverrunSec() * 1e9);
+        List<Thread> threads = new ArrayList<>();
+        for (Session session : sessions) {
+            Thread t = new Thread(() -> session.drive(start, measureFrom, end, deadline), "load-session-" + session.id);
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) t.join();
+
+        Report report = new Report(measureFrom, end);
+        for (Session session : sessions) {
+            if (session.failure != null) throw new IllegalStateException("Сессия " + session.id + " упала", session.failure);
+            report.add(session);
+        }
+        return report;
+    }
+
+    private static final class Session {
+        final int id;
+        final Settings settings;
+        final Path dir;
+        final Game game;
+        final TrafficGenerator traffic;
+        final SplittableRandom arrivals;
+        final LatencyHistogram[] latency = new LatencyHistogram[CommandMix.KINDS.size()];
+        final long[] errors = new long[CommandMix.KINDS.size()];
+        long respawns;
+        long lastDone;
+        long late; // выполнено уже после конца окна замера
+        long timedOut; // запланировано в окне, но не выполнено до предела перебега
+        Throwable failure;
+
+        Session(Settings s, int id) {
+            this.id = id;
+            this.settings = s;
+            try {
+                this.dir = Files.createTempDirectory("dungeon-load-");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось создать каталог сессии", e);
+            }
+            this.game = new Game(new NullOutput(), dir, () -> { });
+            if (s.rooms() > 0) WorldGenerator.generate(game.getState(), s.rooms(), s.seed() + id);
+            this.traffic = new TrafficGenerator(s.mix(), s.seed() * 31 + id, s.typoRate());
+            this.arrivals = new SplittableRandom(s.seed() * 17 + id);
+            for (int i = 0; i < latency.length; i++) latency[i] = new LatencyHistogram();
+        }
+
+        void drive(long start, long measureFrom, long end, long deadline) {
+            double meanGap = 1e9 * settings.sessions() / settings.rate();
+            GameState state = game.getState();
+            int maxHp = state.getPlayer().getHp();
+            long intended = start;
+            try {
+                while (true) {
+                    intended = nextArrival(intended, meanGap);
+                    if (intended >= end) break;
+                    for (long wait; (wait = intended - System.nanoTime()) > 0; ) LockSupport.parkNanos(wait);
+                    if (System.nanoTime() >= deadline) {
+                        // Отставание не разобрать до срока — оставшиеся приходы окна просрочены
+                        for (; intended < end; intended = nextArrival(intended, meanGap)) {
+                            if (intended >= measureFrom) timedOut++;
+                        }
+                        break;
+                    }
+
+                    String line = traffic.next(state);
+                    boolean ok = game.execute(line);
+                    state.getOutput().flush();
+                    long done = System.nanoTime();
+
+                    if (intended >= measureFrom) {
+                        latency[traffic.kind()].record(done - intended);
+                        if (!ok) errors[traffic.kind()]++;
+                        lastDone = done;
+                        if (done > end) late++;
+                    }
+                    if (state.getPlayer().getHp() <= 0) {
+                        state.getPlayer().setHp(maxHp);
+                        respawns++;
+                    }
+                }
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                deleteQuietly(dir);
+            }
+        }
+
+        private long nextArrival(long intended, double meanGap) {
+            return intended + (settings.poisson() ? (long) (-Math.log(1 - arrivals.nextDouble()) * meanGap) : (long) meanGap);
+        }
+    }
+
+    static final class Report {
+        private final LatencyHistogram[] latency = new LatencyHistogram[CommandMix.KINDS.size()];
+        private final long[] errors = new long[CommandMix.KINDS.size()];
+        private final LatencyHistogram overall = new LatencyHistogram();
+        private final long measureFrom;
+        private final long end;
+        private long respawns;
+        private long lastDone;
+        private long late;
+        private long timedOut;
+
+        Report(long measureFrom, long end) {
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (int i = 0; i < latency.length; i++) latency[i] = new LatencyHistogram();
+        }
+
+        void add(Session s) {
+            for (int i = 0; i < latency.length; i++) {
+                latency[i].add(s.latency[i]);
+                overall.add(s.latency[i]);
+                errors[i] += s.errors[i];
+            }
+            respawns += s.respawns;
+            lastDone = Math.max(lastDone, s.lastDone);
+            late += s.late;
+            timedOut += s.timedOut;
+        }
+
+        LatencyHistogram overall() {
+            return overall;
+        }
+
+        long timedOut() {
+            return timedOut;
+        }
+
+        void print(Settings s) {
+            System.out.printf(Locale.ROOT, "Сессий: %d, цель: %.0f ком/с, мир: %s, замер: %.1f с (прогрев %.1f с), поток: %s%n",
+                    s.sessions(), s.rate(), s.rooms() > 0 ? s.rooms() + " комнат" : "стандартный", s.durationSec(),
+                    s.warmupSec(), s.poisson() ? "пуассоновский" : "равномерный");
+            System.out.printf(Locale.ROOT, "%-10s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                    "command", "count", "errors", "cmd/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            // Пропускная способность — выполненные команды за фактическое время: окно замера
+            // плюс время, которое понадобилось, чтобы разобрать отставание после его конца
+            double elapsed = lastDone > measureFrom ? Math.max(lastDone, end) - measureFrom : s.durationSec() * 1e9;
+            double seconds = elapsed / 1e9;
+            long allErrors = 0;
+            for (int i = 0; i < latency.length; i++) {
+                row(CommandMix.KINDS.get(i), latency[i], errors[i], seconds);
+                allErrors += errors[i];
+            }
+            row("ALL", overall, allErrors, seconds);
+            double achieved = overall.count() / seconds;
+            System.out.printf(Locale.ROOT, "Достигнуто: %.0f ком/с за %.2f с (%.1f%% от цели), возрождений героя: %d%n",
+                    achieved, seconds, 100 * achieved / s.rate(), respawns);
+            if (late > 0) {
+                System.out.printf(Locale.ROOT, "Отставание: %d команд выполнено после конца окна, перебег %.2f с%n",
+                        late, (lastDone - end) / 1e9);
+            }
+            if (timedOut > 0) {
+                System.out.printf(Locale.ROOT, "Просрочено: %d команд не выполнено за %.1f с после конца окна (--max-overrun)%n",
+                        timedOut, s.maxOverrunSec());
+            }
+        }
+
+        private static void row(String name, LatencyHistogram h, long errors, double seconds) {
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-10s %10d %8d %10.1f",
+                    name, h.count(), errors, h.count() / seconds));
+            for (double p : PERCENTILES) sb.append(String.format(Locale.ROOT, " %10.3f", h.percentile(p) / 1e6));
+            sb.append(String.format(Locale.ROOT, " %10.3f", h.max() / 1e6));
+            System.out.println(sb);
+        }
+    }
+
+    static Settings parse(String[] args) throws IOException {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Ожидалось '--<параметр> <значение>': " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        String mixFile = opts.remove("mix");
+        String arrivals = opts.getOrDefault("arrivals", "poisson");
+        if (!arrivals.equals("poisson") && !arrivals.equals("fixed")) {
+            throw new IllegalArgumentException("--arrivals: poisson или fixed, а не " + arrivals);
+        }
+        Settings s = new Settings(
+                Integer.parseInt(opts.getOrDefault("sessions", "4")),
+                Double.parseDouble(opts.getOrDefault("rate", "1000")),
+                Double.parseDouble(opts.getOrDefault("duration", "10")),
+                Double.parseDouble(opts.getOrDefault("warmup", "2")),
+                Integer.parseInt(opts.getOrDefault("rooms", "1000")),
+                Long.parseLong(opts.getOrDefault("seed", "1")),
+                mixFile != null ? CommandMix.load(Paths.get(mixFile)) : CommandMix.defaults(),
+                Double.parseDouble(opts.getOrDefault("typo-rate", "0.05")),
+                arrivals.equals("poisson"),
+                Double.parseDouble(opts.getOrDefault("slo-p99-ms", "0")),
+                Double.parseDouble(opts.getOrDefault("max-overrun", opts.getOrDefault("duration", "10"))));
+        opts.keySet().removeAll(Set.of("sessions", "rate", "duration", "warmup", "rooms", "seed", "typo-rate", "arrivals", "slo-p99-ms", "max-overrun"));
+        if (!opts.isEmpty()) throw new IllegalArgumentException("Неизвестные параметры: " + opts.keySet());
+        if (s.sessions() <= 0 || s.rate() <= 0 || s.durationSec() <= 0) {
+            throw new IllegalArgumentException("--sessions, --rate и --duration должны быть положительными");
+        }
+        if (s.rooms() < 0 || s.warmupSec() < 0 || s.maxOverrunSec() < 0) {
+            throw new IllegalArgumentException("--rooms, --warmup и --max-overrun не могут быть отрицательными");
+        }
+        if (!(s.typoRate() >= 0 && s.typoRate() <= 1)) {
+            throw new IllegalArgumentException("--typo-rate должен быть в пределах [0, 1]: " + s.typoRate());
+        }
+        return s;
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+        }
+    }
+
+    private LoadTest() {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.dungeon.load;
+
+import com.example.dungeon.Main;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Время до первого приглашения "> ": каждый замер — новый JVM-процесс с тем же
+ * classpath, отсчёт от запуска процесса. Несколько вариантов запуска сравниваются
+ * в одном прогоне:
+ * <pre>
+ * java com.example.dungeon.load.StartupBenchmark --runs 10 --case "" --case "--rooms 100000" --case "--world world.img"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int runs = 10, warmup = 1;
+        List<String> cases = new ArrayList<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                case "--case" -> cases.add(args[i + 1]);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + args[i]);
+            }
+        }
+        if (args.length % 2 != 0) throw new IllegalArgumentException("Нет значения для " + args[args.length - 1]);
+        if (runs <= 0) throw new IllegalArgumentException("--runs должен быть положительным");
+        if (cases.isEmpty()) cases.add("");
+
+        System.out.printf(Locale.ROOT, "%-40s %8s %8s %8s %8s%n", "case", "min ms", "p50 ms", "p90 ms", "max ms");
+        for (String c : cases) {
+            for (int i = 0; i < warmup; i++) timeToPrompt(c);
+            long[] t = new long[runs];
+            for (int i = 0; i < runs; i++) t[i] = timeToPrompt(c);
+            Arrays.sort(t);
+            System.out.printf(Locale.ROOT, "%-40s %8.1f %8.1f %8.1f %8.1f%n", c.isBlank() ? "(стандартный мир)" : c,
+                    t[0] / 1e6, t[(runs - 1) / 2] / 1e6, t[(int) Math.ceil(runs * 0.9) - 1] / 1e6, t[runs - 1] / 1e6);
+        }
+    }
+
+    static long timeToPrompt(String mainArgs) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>(List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), Main.class.getName()));
+        if (!mainArgs.isBlank()) cmd.addAll(Arrays.asList(mainArgs.trim().split("\\s+")));
+        ProcessBuilder pb = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        long t0 = System.nanoTime();
+        Process p = pb.start();
+        long elapsed = -1;
+        try (InputStream out = p.getInputStream()) {
+            for (int prev = -1, b; (b = out.read()) != -1; prev = b) {
+                if (prev == '>' && b == ' ') {
+                    elapsed = System.nanoTime() - t0;
+                    break;
+                }
+            }
+            p.getOutputStream().close(); // конец ввода — игра завершается
+            out.transferTo(OutputStream.nullOutputStream());
+        }
+        p.waitFor();
+        if (elapsed < 0) throw new IllegalStateException("Процесс завершился без приглашения: " + String.join(" ", cmd));
+        return elapsed;
+    }
+
+    private StartupBenchmark() {
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.dungeon.load;
+
+import com.example.dungeon.model.GameState;
+import com.example.dungeon.model.Item;
+import com.example.dungeon.model.Room;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Поток команд одной синтетической сессии. Вид команды выбирает {@link CommandMix}
+ * среди возможных в текущем состоянии, аргументы берутся из состояния, как это сделал
+ * бы игрок; с вероятностью {@code typoRate} аргумент заведомо неверный.
+ */
+final class TrafficGenerator {
+    private static final int LOOK = CommandMix.KINDS.indexOf("look");
+    private static final int MAX_REDRAWS = 16;
+    private static final String NO_SUCH_DIRECTION = "наверх";
+    private static final String NO_SUCH_ITEM = "нечто";
+
+    private final CommandMix mix;
+    private final SplittableRandom rnd;
+    private final double typoRate;
+    private int kind = LOOK;
+
+    TrafficGenerator(CommandMix mix, long seed, double typoRate) {
+        this.mix = mix;
+        this.rnd = new SplittableRandom(seed);
+        this.typoRate = typoRate;
+    }
+
+    /** Вид последней сгенерированной команды — индекс в {@link CommandMix#KINDS}. */
+    int kind() {
+        return kind;
+    }
+
+    String next(GameState s) {
+        // Команду, невозможную в текущем состоянии (take в пустой комнате, fight без монстра),
+        // игрок бы не ввёл — переход тянется заново, ошибки даёт только typoRate
+        for (int attempt = 0; attempt < MAX_REDRAWS; attempt++) {
+            int next = mix.next(kind, rnd.nextDouble());
+            String line = line(CommandMix.KINDS.get(next), s, rnd.nextDouble() < typoRate);
+            if (line != null) {
+                kind = next;
+                return line;
+            }
+        }
+        kind = LOOK;
+        return "look";
+    }
+
+    // null — команда сейчас невозможна; опечатка портит аргумент только у возможной команды
+    private String line(String name, GameState s, boolean typo) {
+        Room room = s.getCurrent();
+        return switch (name) {
+            case "move" -> withArg(name, openExit(room), NO_SUCH_DIRECTION, typo);
+            case "take" -> withArg(name, itemName(room.getItems()), NO_SUCH_ITEM, typo);
+            case "use" -> withArg(name, itemName(s.getPlayer().getInventory()), NO_SUCH_ITEM, typo);
+            case "fight" -> room.getMonster() != null ? name : null;
+            default -> name;
+        };
+    }
+
+    private String openExit(Room room) {
+        List<String> open = new ArrayList<>(room.getNeighbors().size());
+        for (String dir : room.getNeighbors().keySet()) {
+            if (!room.getLockedExits().getOrDefault(dir, false)) open.add(dir);
+        }
+        return open.isEmpty() ? null : open.get(rnd.nextInt(open.size()));
+    }
+
+    private String itemName(List<Item> items) {
+        return items.isEmpty() ? null : items.get(rnd.nextInt(items.size())).getName();
+    }
+
+    private static String withArg(String name, String arg, String wrongArg, boolean typo) {
+        if (arg == null) return null;
+        return name + " " + (typo ? wrongArg : arg);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.dungeon.model;
 
+import com.example.dungeon.io.ConsoleOutput;
+import com.example.dungeon.io.Output;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -8,6 +11,7 @@ public class GameState {
     private Room current;
     private int score;
     private List<Room> allRooms = new ArrayList<>(); //Новое поле для сериализации всех комнат
+    private Output output;
 
     public Player getPlayer() {
         return player;
@@ -40,4 +44,13 @@ public class GameState {
     public void setAllRooms(List<Room> allRooms) {
         this.allRooms = allRooms;
     }
+
+    public Output getOutput() {
+        if (output == null) output = new ConsoleOutput();
+        return output;
+    }
+
+    public void setOutput(Output output) {
+        this.output = output;
+    }
 }
@@ -7,6 +7,6 @@ public class Key extends Item {
 
     @Override
     public void apply(GameState ctx) {
-        System.out.println("Ключ звенит. Возможно, где-то есть дверь...");
+        ctx.getOutput().println("Ключ звенит. Возможно, где-то есть дверь...");
     }
 }
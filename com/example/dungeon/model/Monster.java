@@ -1,7 +1,7 @@
 package com.example.dungeon.model;
 
 public class Monster extends Entity {
-    private int level;
+    private final int level;
 
     public Monster(String name, int level, int hp) {
         super(name, hp);
@@ -11,8 +11,4 @@ public class Monster extends Entity {
     public int getLevel() {
         return level;
     }
-
-    public void setLevel(int level) {
-        this.level = level;
-    }
 }
@@ -8,11 +8,15 @@ public class Potion extends Item {
         this.heal = heal;
     }
 
+    public int getHeal() {
+        return heal;
+    }
+
     @Override
     public void apply(GameState ctx) {
         Player p = ctx.getPlayer();
         p.setHp(p.getHp() + heal);
-        System.out.println("Выпито зелье: +" + heal + " HP. Текущее HP: " + p.getHp());
+        ctx.getOutput().println("Выпито зелье: +" + heal + " HP. Текущее HP: " + p.getHp());
         p.getInventory().remove(this);
     }
 }
@@ -7,8 +7,10 @@ public class Room {
     private final String description;
     private final Map<String, Room> neighbors = new HashMap<>();
     private final List<Item> items = new ArrayList<>();
+    private final List<Item> itemsView = Collections.unmodifiableList(items);
     private Monster monster;
     private final Map<String, Boolean> lockedExits = new HashMap<>();
+    private RoomListener listener;
 
     public Room(String name, String description) {
         this.name = name;
@@ -27,8 +29,20 @@ public class Room {
         return neighbors;
     }
 
+    // Только для чтения: предметы меняются через addItem/removeItem, чтобы об этом узнал слушатель
     public List<Item> getItems() {
-        return items;
+        return itemsView;
+    }
+
+    public void addItem(Item item) {
+        items.add(item);
+        if (listener != null) listener.itemAdded(this, item);
+    }
+
+    public boolean removeItem(Item item) {
+        if (!items.remove(item)) return false;
+        if (listener != null) listener.itemRemoved(this, item);
+        return true;
     }
 
     public Monster getMonster() {
@@ -36,7 +50,17 @@ public class Room {
     }
 
     public void setMonster(Monster m) {
+        Monster old = this.monster;
         this.monster = m;
+        if (listener != null && old != m) listener.monsterChanged(this, old, m);
+    }
+
+    // Слушатель у комнаты один: второй молча отнял бы обновления у первого, поэтому замена — только через null
+    public void setListener(RoomListener listener) {
+        if (listener != null && this.listener != null && this.listener != listener) {
+            throw new IllegalStateException("У комнаты уже есть слушатель: " + name);
+        }
+        this.listener = listener;
     }
 
     public Map<String, Boolean> getLockedExits() {
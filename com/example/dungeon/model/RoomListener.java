@@ -0,0 +1,10 @@
+package com.example.dungeon.model;
+
+// Наблюдатель за содержимым комнаты — через него индексы мира узнают об изменениях
+public interface RoomListener {
+    void itemAdded(Room room, Item item);
+
+    void itemRemoved(Room room, Item item);
+
+    void monsterChanged(Room room, Monster old, Monster now);
+}
@@ -8,11 +8,15 @@ public class Weapon extends Item {
         this.bonus = bonus;
     }
 
+    public int getBonus() {
+        return bonus;
+    }
+
     @Override
     public void apply(GameState ctx) {
         var p = ctx.getPlayer();
         p.setAttack(p.getAttack() + bonus);
-        System.out.println("Оружие экипировано. Атака теперь: " + p.getAttack());
+        ctx.getOutput().println("Оружие экипировано. Атака теперь: " + p.getAttack());
         p.getInventory().remove(this);
     }
 }
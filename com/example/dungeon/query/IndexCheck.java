@@ -0,0 +1,224 @@
+package com.example.dungeon.query;
+
+import com.example.dungeon.model.*;
+
+import java.util.*;
+
+/**
+ * Сверка {@link WorldIndex} с перебором: мир-сетка со случайным содержимым и редкими
+ * односторонними проходами получает индекс, затем случайные addItem/removeItem/setMonster
+ * вперемешку с запросами. Каждый запрос
+ * (тип, название, диапазон уровней, их сочетания, с within и без) сравнивается с полным
+ * проходом по комнатам и обходом в ширину. Имена предметов берутся из маленького набора,
+ * а половина изменений приходится на немногие «горячие» комнаты — так наборы комнат
+ * перерастают порог карты позиций, а в одной комнате копятся одинаковые предметы.
+ * <pre>
+ * java com.example.dungeon.query.IndexCheck --rooms 1000000 --mutations 200000 --queries 400 --seed 1
+ * </pre>
+ * Код выхода 1 — индекс разошёлся с перебором.
+ */
+public final class IndexCheck {
+    private static final String[] TYPES = {"Potion", "Key", "Weapon"};
+    private static final int NAMES_PER_TYPE = 6;
+    private static final int HOT_ROOMS = 1000;
+    private static final int ROUNDS = 20;
+    private static final int MAX_LEVEL = 8;
+    private static final int MAX_REPORTED = 10;
+
+    private final List<Room> rooms;
+    private final WorldIndex index;
+    private final SplittableRandom rnd;
+    private final Map<Room, Integer> ids;
+    private final int[] dist;
+    private final int[] queue;
+    private int failures;
+
+    private IndexCheck(int roomCount, long seed) {
+        this.rnd = new SplittableRandom(seed);
+        this.rooms = world(roomCount);
+        this.index = new WorldIndex(rooms);
+        this.ids = new IdentityHashMap<>(rooms.size() * 2);
+        for (int i = 0; i < rooms.size(); i++) ids.put(rooms.get(i), i);
+        this.dist = new int[rooms.size()];
+        this.queue = new int[rooms.size()];
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Ожидалось '--<параметр> <значение>': " + args[i]);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+        int roomCount = Integer.parseInt(opts.getOrDefault("rooms", "1000000"));
+        int mutations = Integer.parseInt(opts.getOrDefault("mutations", "200000"));
+        int queries = Integer.parseInt(opts.getOrDefault("queries", "400"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "1"));
+        opts.keySet().removeAll(Set.of("rooms", "mutations", "queries", "seed"));
+        if (!opts.isEmpty()) throw new IllegalArgumentException("Неизвестные параметры: " + opts.keySet());
+        if (roomCount <= 0 || mutations < 0 || queries <= 0) {
+            throw new IllegalArgumentException("--rooms и --queries должны быть положительными, --mutations не может быть отрицательным");
+        }
+
+        IndexCheck check = new IndexCheck(roomCount, seed);
+        long t0 = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            int m = mutations / ROUNDS + (round < mutations % ROUNDS ? 1 : 0);
+            int q = queries / ROUNDS + (round < queries % ROUNDS ? 1 : 0);
+            for (int i = 0; i < m; i++) check.mutate();
+            for (int i = 0; i < q; i++) check.query();
+        }
+        System.out.printf(Locale.ROOT, "Комнат: %d, изменений: %d, запросов: %d, расхождений: %d (%.1f с)%n",
+                roomCount, mutations, queries, check.failures, (System.nanoTime() - t0) / 1e9);
+        if (check.failures > 0) System.exit(1);
+    }
+
+    // Свой мир, а не WorldGenerator из core: core сам зависит от query
+    private List<Room> world(int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        List<Room> world = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Room room = new Room("Комната " + i, "");
+            if (rnd.nextDouble() < 0.4) room.addItem(randomItem());
+            if (rnd.nextDouble() < 0.15) {
+                int level = 1 + rnd.nextInt(MAX_LEVEL);
+                room.setMonster(new Monster("Монстр", level, level * 4));
+            }
+            world.add(room);
+        }
+        for (int i = 0; i < count; i++) {
+            Room room = world.get(i);
+            if (i % side + 1 < side && i + 1 < count) link(room, "east", world.get(i + 1), "west");
+            if (i + side < count) link(room, "south", world.get(i + side), "north");
+            if (rnd.nextDouble() < 0.01) room.getNeighbors().put("portal", world.get(rnd.nextInt(count)));
+        }
+        return world;
+    }
+
+    private static void link(Room a, String dir, Room b, String back) {
+        a.getNeighbors().put(dir, b);
+        b.getNeighbors().put(back, a);
+    }
+
+    private void mutate() {
+        Room room = rooms.get(rnd.nextBoolean() ? rnd.nextInt(Math.min(HOT_ROOMS, rooms.size())) : rnd.nextInt(rooms.size()));
+        double roll = rnd.nextDouble();
+        if (roll < 0.45) {
+            room.addItem(randomItem());
+        } else if (roll < 0.80) {
+            List<Item> items = room.getItems();
+            if (!items.isEmpty()) room.removeItem(items.get(rnd.nextInt(items.size())));
+        } else if (roll < 0.90) {
+            room.setMonster(null);
+        } else {
+            int level = 1 + rnd.nextInt(MAX_LEVEL);
+            room.setMonster(new Monster("Монстр", level, level * 4));
+        }
+    }
+
+    private Item randomItem() {
+        int n = rnd.nextInt(NAMES_PER_TYPE);
+        return switch (TYPES[rnd.nextInt(TYPES.length)]) {
+            case "Potion" -> new Potion("Зелье " + n, 5);
+            case "Key" -> new Key("Ключ " + n);
+            default -> new Weapon("Клинок " + n, 3);
+        };
+    }
+
+    private void query() {
+        String type = null, name = null;
+        int minLevel = 0, maxLevel = -1;
+        boolean monster = false;
+        int criteria = 1 + rnd.nextInt(7); // непустое сочетание трёх критериев
+        if ((criteria & 1) != 0) type = randomCase(TYPES[rnd.nextInt(TYPES.length)]);
+        if ((criteria & 2) != 0) name = randomCase(randomItem().getName());
+        if ((criteria & 4) != 0) {
+            monster = true;
+            minLevel = rnd.nextInt(MAX_LEVEL + 2);
+            maxLevel = minLevel + rnd.nextInt(4) - 1; // иногда пустой диапазон min > max
+        }
+        Room origin = null;
+        int maxHops = 0;
+        if (rnd.nextBoolean()) {
+            origin = rooms.get(rnd.nextInt(rooms.size()));
+            maxHops = rnd.nextInt(40);
+        }
+
+        WorldQuery q = index.query();
+        if (type != null) q.itemType(type);
+        if (name != null) q.item(name);
+        if (monster) q.monsterLevel(minLevel, maxLevel);
+        if (origin != null) q.within(origin, maxHops);
+        List<WorldQuery.Match> actual = q.run();
+        Map<Room, Integer> expected = bruteForce(type, name, monster, minLevel, maxLevel, origin, maxHops);
+
+        String problem = compare(actual, expected, origin != null);
+        if (problem != null && ++failures <= MAX_REPORTED) {
+            System.out.printf(Locale.ROOT, "Расхождение: type=%s item=%s monster=%s within=%s -> %s%n", type, name,
+                    monster ? minLevel + ".." + maxLevel : "-", origin != null ? origin.getName() + "/" + maxHops : "-", problem);
+        }
+    }
+
+    private static String compare(List<WorldQuery.Match> actual, Map<Room, Integer> expected, boolean within) {
+        Map<Room, Integer> seen = new IdentityHashMap<>(actual.size() * 2);
+        int lastDistance = -1;
+        for (WorldQuery.Match m : actual) {
+            if (seen.put(m.room(), m.distance()) != null) return "комната повторяется: " + m.room().getName();
+            Integer want = expected.get(m.room());
+            if (want == null) return "лишняя комната: " + m.room().getName();
+            if (want != m.distance()) return m.room().getName() + ": расстояние " + m.distance() + ", ожидалось " + want;
+            if (within && m.distance() < lastDistance) return "нарушен порядок по расстоянию у " + m.room().getName();
+            lastDistance = m.distance();
+        }
+        if (seen.size() != expected.size()) return "найдено " + seen.size() + " комнат, ожидалось " + expected.size();
+        return null;
+    }
+
+    private Map<Room, Integer> bruteForce(String type, String name, boolean monster, int minLevel, int maxLevel, Room origin, int maxHops) {
+        Map<Room, Integer> out = new IdentityHashMap<>();
+        if (origin == null) {
+            for (Room room : rooms) {
+                if (matches(room, type, name, monster, minLevel, maxLevel)) out.put(room, -1);
+            }
+            return out;
+        }
+        // Обход в ширину по всем выходам, запертые двери не учитываются — как в WorldIndex
+        Arrays.fill(dist, -1);
+        int head = 0, tail = 0;
+        int start = ids.get(origin);
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int v = queue[head++];
+            Room room = rooms.get(v);
+            if (matches(room, type, name, monster, minLevel, maxLevel)) out.put(room, dist[v]);
+            if (dist[v] == maxHops) continue;
+            for (Room neighbor : room.getNeighbors().values()) {
+                int w = ids.get(neighbor);
+                if (dist[w] < 0) {
+                    dist[w] = dist[v] + 1;
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return out;
+    }
+
+    private static boolean matches(Room room, String type, String name, boolean monster, int minLevel, int maxLevel) {
+        if (type != null && room.getItems().stream().noneMatch(i -> i.getClass().getSimpleName().equalsIgnoreCase(type))) return false;
+        if (name != null && room.getItems().stream().noneMatch(i -> i.getName().equalsIgnoreCase(name))) return false;
+        if (!monster) return true;
+        Monster m = room.getMonster();
+        return m != null && m.getLevel() >= minLevel && m.getLevel() <= maxLevel;
+    }
+
+    // Индекс сравнивает имена без учёта регистра — запрос пишется вразнобой
+    private String randomCase(String s) {
+        return switch (rnd.nextInt(3)) {
+            case 0 -> s.toUpperCase(Locale.ROOT);
+            case 1 -> s.toLowerCase(Locale.ROOT);
+            default -> s;
+        };
+    }
+}
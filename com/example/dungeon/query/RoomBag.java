@@ -0,0 +1,81 @@
+package com.example.dungeon.query;
+
+import com.example.dungeon.model.Room;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Мультимножество комнат для вторичных индексов: комната со счётчиком вхождений
+ * (например, два зелья в одной комнате). Хранится в плотных массивах, так что
+ * миллион одноэлементных наборов (уникальные имена предметов) стоит дёшево;
+ * карта позиций заводится только для больших наборов.
+ */
+final class RoomBag {
+    private static final int SLOTS_THRESHOLD = 16;
+
+    private Room[] rooms = new Room[1];
+    private int[] counts = new int[1];
+    private int size;
+    private Map<Room, Integer> slots;
+
+    void add(Room room) {
+        int i = slotOf(room);
+        if (i >= 0) {
+            counts[i]++;
+            return;
+        }
+        if (size == rooms.length) {
+            int capacity = size * 2;
+            rooms = Arrays.copyOf(rooms, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        rooms[size] = room;
+        counts[size] = 1;
+        size++;
+        if (slots != null) {
+            slots.put(room, size - 1);
+        } else if (size > SLOTS_THRESHOLD) {
+            slots = new IdentityHashMap<>(size * 2);
+            for (int j = 0; j < size; j++) slots.put(rooms[j], j);
+        }
+    }
+
+    void remove(Room room) {
+        int i = slotOf(room);
+        if (i < 0 || --counts[i] > 0) return;
+        int last = --size;
+        if (i != last) {
+            rooms[i] = rooms[last];
+            counts[i] = counts[last];
+            if (slots != null) slots.put(rooms[i], i);
+        }
+        rooms[last] = null;
+        if (slots != null) slots.remove(room);
+    }
+
+    boolean contains(Room room) {
+        return slotOf(room) >= 0;
+    }
+
+    /** Число различных комнат. */
+    int size() {
+        return size;
+    }
+
+    Room get(int i) {
+        return rooms[i];
+    }
+
+    private int slotOf(Room room) {
+        if (slots != null) {
+            Integer i = slots.get(room);
+            return i == null ? -1 : i;
+        }
+        for (int i = 0; i < size; i++) {
+            if (rooms[i] == room) return i;
+        }
+        return -1;
+    }
+}
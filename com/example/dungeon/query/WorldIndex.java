@@ -0,0 +1,176 @@
+package com.example.dungeon.query;
+
+import com.example.dungeon.model.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Вторичные индексы мира: тип и имя предмета -> комнаты, уровень монстра -> комнаты
+ * (упорядоченно, для запросов по диапазону) и граф переходов для запросов по числу ходов.
+ * <p>
+ * Индексы по содержимому строятся одним проходом и дальше обновляются инкрементально:
+ * индекс подписывается на каждую комнату как {@link RoomListener}. Слушатель у комнаты
+ * один, поэтому второй индекс по тем же комнатам не строится — запросы к миру сессии идут
+ * через её индекс (Game.getWorldIndex). Граф строится при первом запросе по расстоянию
+ * и считается неизменным — набор комнат и их выходы меняются только заменой списка
+ * комнат целиком, после чего владелец отпускает старый индекс ({@link #detach}) и строит
+ * новый (см. {@link #covers}). Уровень монстра неизменен, поэтому индекс по уровням
+ * следит только за {@link Room#setMonster}.
+ * <p>
+ * Не потокобезопасен, как и остальное состояние сессии.
+ */
+public final class WorldIndex implements RoomListener {
+    private final List<Room> rooms;
+    private final Map<String, RoomBag> byType = new HashMap<>();
+    private final Map<String, RoomBag> byName = new HashMap<>();
+    private final NavigableMap<Integer, RoomBag> byMonsterLevel = new TreeMap<>();
+
+    // Граф в компактном виде: соседи комнаты v — edges[edgeStart[v] .. edgeStart[v + 1])
+    private Map<Room, Integer> ids;
+    private Room[] nodes;
+    private int[] edgeStart;
+    private int[] edges;
+    private int[] seen;
+    private int[] queue;
+    private int stamp;
+
+    /** @throws IllegalStateException если комнаты уже отслеживает другой индекс — его сначала нужно {@link #detach()} */
+    public WorldIndex(List<Room> rooms) {
+        this.rooms = rooms;
+        int attached = 0;
+        try {
+            for (Room room : rooms) {
+                room.setListener(this);
+                attached++;
+            }
+        } catch (IllegalStateException e) {
+            for (int i = 0; i < attached; i++) rooms.get(i).setListener(null);
+            throw e;
+        }
+        for (Room room : rooms) {
+            for (Item item : room.getItems()) itemAdded(room, item);
+            if (room.getMonster() != null) monsterChanged(room, null, room.getMonster());
+        }
+    }
+
+    /** Отписывается от комнат; после этого индекс устаревает и больше не используется. */
+    public void detach() {
+        for (Room room : rooms) room.setListener(null);
+    }
+
+    /** Построен ли индекс именно по этому списку комнат (сравнивается сам список, не содержимое). */
+    public boolean covers(List<Room> rooms) {
+        return this.rooms == rooms;
+    }
+
+    public WorldQuery query() {
+        return new WorldQuery(this);
+    }
+
+    @Override
+    public void itemAdded(Room room, Item item) {
+        byType.computeIfAbsent(key(item.getClass().getSimpleName()), k -> new RoomBag()).add(room);
+        byName.computeIfAbsent(key(item.getName()), k -> new RoomBag()).add(room);
+    }
+
+    @Override
+    public void itemRemoved(Room room, Item item) {
+        removeFrom(byType, key(item.getClass().getSimpleName()), room);
+        removeFrom(byName, key(item.getName()), room);
+    }
+
+    @Override
+    public void monsterChanged(Room room, Monster old, Monster now) {
+        if (old != null) removeFrom(byMonsterLevel, old.getLevel(), room);
+        if (now != null) byMonsterLevel.computeIfAbsent(now.getLevel(), k -> new RoomBag()).add(room);
+    }
+
+    RoomBag itemType(String type) {
+        return byType.get(key(type));
+    }
+
+    RoomBag itemName(String name) {
+        return byName.get(key(name));
+    }
+
+    Collection<RoomBag> monsterLevels(int min, int max) {
+        if (min > max) return List.of();
+        return byMonsterLevel.subMap(min, true, max, true).values();
+    }
+
+    List<Room> rooms() {
+        return rooms;
+    }
+
+    /**
+     * Обход в ширину от {@code origin} не дальше {@code maxHops} ходов (запертые двери
+     * не учитываются). Подходящие комнаты попадают в {@code out} в порядке удаления;
+     * обход останавливается, как только найдено {@code expected} комнат.
+     */
+    void within(Room origin, int maxHops, Predicate<Room> filter, int expected, List<WorldQuery.Match> out) {
+        ensureGraph();
+        Integer start = ids.get(origin);
+        if (start == null) throw new IllegalArgumentException("Комната не входит в мир: " + origin.getName());
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            stamp = 1;
+        }
+        int head = 0, tail = 0, depth = 0;
+        queue[tail++] = start;
+        seen[start] = stamp;
+        int levelEnd = tail;
+        while (head < tail) {
+            if (head == levelEnd) {
+                depth++;
+                levelEnd = tail;
+            }
+            int v = queue[head++];
+            if (filter.test(nodes[v])) {
+                out.add(new WorldQuery.Match(nodes[v], depth));
+                if (out.size() >= expected) return;
+            }
+            if (depth == maxHops) continue;
+            for (int e = edgeStart[v]; e < edgeStart[v + 1]; e++) {
+                int w = edges[e];
+                if (seen[w] != stamp) {
+                    seen[w] = stamp;
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    private void ensureGraph() {
+        if (ids != null) return;
+        int n = rooms.size();
+        nodes = rooms.toArray(new Room[0]);
+        ids = new IdentityHashMap<>(n * 2);
+        for (int i = 0; i < n; i++) ids.put(nodes[i], i);
+        edgeStart = new int[n + 1];
+        for (int i = 0; i < n; i++) edgeStart[i + 1] = edgeStart[i] + nodes[i].getNeighbors().size();
+        edges = new int[edgeStart[n]];
+        for (int i = 0; i < n; i++) {
+            int e = edgeStart[i];
+            for (Room neighbor : nodes[i].getNeighbors().values()) {
+                Integer id = ids.get(neighbor);
+                // выход в комнату вне мира ведёт в никуда — петля на себя ничего не меняет в обходе
+                edges[e++] = id != null ? id : i;
+            }
+        }
+        seen = new int[n];
+        queue = new int[n];
+    }
+
+    private static <K> void removeFrom(Map<K, RoomBag> index, K key, Room room) {
+        RoomBag bag = index.get(key);
+        if (bag == null) return;
+        bag.remove(room);
+        if (bag.size() == 0) index.remove(key);
+    }
+
+    // Имена и типы сравниваются без учёта регистра, как в командах take/use
+    private static String key(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.dungeon.query;
+
+import com.example.dungeon.model.Monster;
+import com.example.dungeon.model.Room;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Запрос к миру: критерии объединяются через «и». Например, комнаты с ключом
+ * не дальше пяти ходов от героя:
+ * <pre>
+ * game.getWorldIndex().query().itemType("Key").within(game.getState().getCurrent(), 5).run();
+ * </pre>
+ */
+public final class WorldQuery {
+    /** Найденная комната; distance — число ходов от точки отсчёта или -1, если её нет. */
+    public record Match(Room room, int distance) {
+    }
+
+    private final WorldIndex index;
+    private String itemType;
+    private String itemName;
+    private boolean monster;
+    private int minLevel;
+    private int maxLevel;
+    private Room origin;
+    private int maxHops;
+
+    WorldQuery(WorldIndex index) {
+        this.index = index;
+    }
+
+    /** Есть предмет данного типа: Key, Potion, Weapon. */
+    public WorldQuery itemType(String type) {
+        this.itemType = type;
+        return this;
+    }
+
+    /** Есть предмет с данным названием. */
+    public WorldQuery item(String name) {
+        this.itemName = name;
+        return this;
+    }
+
+    /** Есть монстр уровня из [min, max]. */
+    public WorldQuery monsterLevel(int min, int max) {
+        this.monster = true;
+        this.minLevel = min;
+        this.maxLevel = max;
+        return this;
+    }
+
+    /** Не дальше maxHops ходов от origin; результат упорядочен по расстоянию. */
+    public WorldQuery within(Room origin, int maxHops) {
+        if (maxHops < 0) throw new IllegalArgumentException("Число ходов не может быть отрицательным: " + maxHops);
+        this.origin = origin;
+        this.maxHops = maxHops;
+        return this;
+    }
+
+    public List<Match> run() {
+        List<RoomBag> bags = new ArrayList<>(2);
+        if (itemType != null) bags.add(index.itemType(itemType));
+        if (itemName != null) bags.add(index.itemName(itemName));
+        List<Match> out = new ArrayList<>();
+        if (bags.contains(null)) return out;
+
+        // Самый избирательный индекс даёт кандидатов, остальные критерии проверяются по принадлежности
+        RoomBag smallest = null;
+        for (RoomBag bag : bags) {
+            if (smallest == null || bag.size() < smallest.size()) smallest = bag;
+        }
+        Collection<RoomBag> monsterBags = monster ? index.monsterLevels(minLevel, maxLevel) : List.of();
+        int monsterRooms = 0;
+        for (RoomBag bag : monsterBags) monsterRooms += bag.size();
+        if (monster && monsterRooms == 0) return out;
+
+        Predicate<Room> matches = room -> {
+            for (RoomBag bag : bags) {
+                if (!bag.contains(room)) return false;
+            }
+            return !monster || levelMatches(room);
+        };
+
+        if (origin != null) {
+            int expected = Integer.MAX_VALUE;
+            if (smallest != null) expected = smallest.size();
+            if (monster) expected = Math.min(expected, monsterRooms);
+            index.within(origin, maxHops, matches, expected, out);
+        } else if (smallest != null && (!monster || smallest.size() <= monsterRooms)) {
+            collect(smallest, matches, out);
+        } else if (monster) {
+            for (RoomBag bag : monsterBags) collect(bag, matches, out);
+        } else {
+            for (Room room : index.rooms()) out.add(new Match(room, -1));
+        }
+        return out;
+    }
+
+    // В комнате не больше одного монстра: проверить его уровень дешевле, чем искать комнату во всех корзинах диапазона
+    private boolean levelMatches(Room room) {
+        Monster m = room.getMonster();
+        return m != null && m.getLevel() >= minLevel && m.getLevel() <= maxLevel;
+    }
+
+    private static void collect(RoomBag bag, Predicate<Room> matches, List<Match> out) {
+        for (int i = 0; i < bag.size(); i++) {
+            Room room = bag.get(i);
+            if (matches.test(room)) out.add(new Match(room, -1));
+        }
+    }
+}